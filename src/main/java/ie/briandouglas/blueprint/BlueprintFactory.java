@@ -1,13 +1,16 @@
 package ie.briandouglas.blueprint;
 
+import ie.briandouglas.blueprint.variant.VariantDistribution;
 import ie.briandouglas.blueprint.variant.VariantList;
 import ie.briandouglas.blueprint.variant.VariantMapList;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.function.*;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * A flexible factory for creating and customizing entity instances.
@@ -35,6 +38,14 @@ public abstract class BlueprintFactory<T> {
      */
     protected abstract T blueprint();
 
+    /**
+     * Returns how instance-based variations are merged.
+     * Defaults to {@link MergeMode#SHALLOW}; override to use {@link MergeMode#DEEP}.
+     */
+    protected MergeMode mergeMode() {
+        return MergeMode.SHALLOW;
+    }
+
     /**
      * Creates a new instance based on the blueprint and applies any configured setters.
      */
@@ -58,7 +69,11 @@ public abstract class BlueprintFactory<T> {
      */
     public T create(T variation) {
         T instance = create();
-        ObjectMerger.mergeNonNullFields(instance, variation);
+        if (mergeMode() == MergeMode.DEEP) {
+            ObjectMerger.deepMergeNonNullFields(instance, variation);
+        } else {
+            ObjectMerger.mergeNonNullFields(instance, variation);
+        }
         return instance;
     }
 
@@ -89,17 +104,49 @@ public abstract class BlueprintFactory<T> {
                 .toList();
     }
 
+    /**
+     * Lazily creates {@code count} instances, each with a variant sampled from the distribution.
+     * Each instance's variant depends only on the seed and its position, so the same seed always yields
+     * the same variants in the same order, whether or not the stream is made parallel.
+     * One extra {@link #blueprint()} call is made up front to compile the variants against its class.
+     */
+    public Stream<T> create(VariantDistribution distribution, int count, long seed) {
+        if (count <= 0) {
+            return Stream.empty();
+        }
+
+        Class<?> type = blueprint().getClass();
+        MergePlan[] plans = distribution.variants().stream()
+                .map(variant -> MergePlan.compile(type, variant.variant().data()))
+                .toArray(MergePlan[]::new);
+
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    int index = distribution.sample(seed, i);
+                    T instance = create();
+                    MergePlan plan = plans[index];
+                    if (plan.targetClass() != instance.getClass()) {
+                        plan = MergePlan.compile(instance.getClass(), distribution.variants().get(index).variant().data());
+                    }
+                    plan.apply(instance);
+                    return instance;
+                });
+    }
+
+    /**
+     * Lazily creates {@code count} instances, each with a variant sampled from the distribution
+     * using a random seed.
+     */
+    public Stream<T> create(VariantDistribution distribution, int count) {
+        return create(distribution, count, new SplittableRandom().nextLong());
+    }
+
     /**
      * Adds a related value using a supplier.
      * Returns a new BlueprintFactory with this setter appended.
      */
     public <R> BlueprintFactory<T> with(Supplier<R> relatedFactory, BiConsumer<T, R> setter) {
-        return new BlueprintFactory<>(appendSetter(instance -> setter.accept(instance, relatedFactory.get()))) {
-            @Override
-            protected T blueprint() {
-                return BlueprintFactory.this.blueprint();
-            }
-        };
+        return derive(instance -> setter.accept(instance, relatedFactory.get()));
     }
 
     /**
@@ -107,12 +154,7 @@ public abstract class BlueprintFactory<T> {
      * Returns a new BlueprintFactory with this setter appended.
      */
     public <R> BlueprintFactory<T> with(Function<Integer, List<R>> relatedFactory, int count, BiConsumer<T, List<R>> setter) {
-        return new BlueprintFactory<>(appendSetter(instance -> setter.accept(instance, relatedFactory.apply(count)))) {
-            @Override
-            protected T blueprint() {
-                return BlueprintFactory.this.blueprint();
-            }
-        };
+        return derive(instance -> setter.accept(instance, relatedFactory.apply(count)));
     }
 
     /**
@@ -120,11 +162,21 @@ public abstract class BlueprintFactory<T> {
      * Returns a new BlueprintFactory with this setter appended.
      */
     public <V, R> BlueprintFactory<T> with(Function<V, R> relatedFactory, V variant, BiConsumer<T, R> setter) {
-        return new BlueprintFactory<>(appendSetter(instance -> setter.accept(instance, relatedFactory.apply(variant)))) {
+        return derive(instance -> setter.accept(instance, relatedFactory.apply(variant)));
+    }
+
+    /** Returns a new BlueprintFactory sharing this blueprint and merge mode, with the setter appended */
+    private BlueprintFactory<T> derive(Consumer<T> newSetter) {
+        return new BlueprintFactory<>(appendSetter(newSetter)) {
             @Override
             protected T blueprint() {
                 return BlueprintFactory.this.blueprint();
             }
+
+            @Override
+            protected MergeMode mergeMode() {
+                return BlueprintFactory.this.mergeMode();
+            }
         };
     }
 
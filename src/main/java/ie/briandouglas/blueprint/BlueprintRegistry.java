@@ -0,0 +1,191 @@
+package ie.briandouglas.blueprint;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Collects the entity types an application will merge, so they can be described to ahead-of-time tooling.
+ * {@link #writeReflectionConfig(Path)} writes GraalVM {@code reflect-config.json} metadata for them
+ * so merges keep working in a native image.
+ */
+public final class BlueprintRegistry {
+
+    private final Set<Class<?>> types = new LinkedHashSet<>();
+
+    /** Concrete list and map classes of registered fields, which deep merges copy through their constructors. */
+    private final Set<Class<?>> collectionTypes = new LinkedHashSet<>();
+
+    /**
+     * Registers an entity type, its superclasses and the bean types reachable through its fields,
+     * including the element types of generic collection fields.
+     */
+    public BlueprintRegistry register(@NonNull Class<?> type) {
+        collect(type);
+        return this;
+    }
+
+    /**
+     * Registers the entity type a factory creates, resolved from its {@code BlueprintFactory<T>} type argument.
+     * Factories derived with {@code with(...)} carry no type argument, so their blueprint's class is used instead.
+     */
+    public BlueprintRegistry register(@NonNull BlueprintFactory<?> factory) {
+        Class<?> entityType = entityType(factory.getClass());
+        return register(entityType != null ? entityType : factory.blueprint().getClass());
+    }
+
+    /** The registered types, in registration order. */
+    public Set<Class<?>> types() {
+        return Collections.unmodifiableSet(types);
+    }
+
+    /** Writes GraalVM reflection metadata for the registered types to the given file. */
+    public void writeReflectionConfig(@NonNull Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeReflectionConfig(writer);
+        }
+    }
+
+    /**
+     * Writes GraalVM reflection metadata for the registered types, sorted by class name.
+     * Concrete list and map field types get the constructors deep merges copy them with.
+     * Collections behind interface-typed fields are only known at run time, so they are not covered;
+     * in a native image deep merges copy those into an {@code ArrayList} or {@code LinkedHashMap}.
+     */
+    public void writeReflectionConfig(@NonNull Writer writer) throws IOException {
+        TreeMap<String, String> entries = new TreeMap<>();
+        for (Class<?> type : types) {
+            List<String> constructors = hasConstructor(type) ? List.of("") : List.of();
+            entries.put(type.getName(), entry(type, true, constructors));
+        }
+        for (Class<?> type : collectionTypes) {
+            List<String> constructors = new ArrayList<>();
+            if (hasConstructor(type)) {
+                constructors.add("");
+            }
+            if (SortedMap.class.isAssignableFrom(type) && hasConstructor(type, Comparator.class)) {
+                constructors.add("\"" + Comparator.class.getName() + "\"");
+            }
+            entries.putIfAbsent(type.getName(), entry(type, false, constructors));
+        }
+
+        writer.write("[\n");
+        writer.write(String.join(",\n", entries.values()));
+        writer.write("\n]\n");
+    }
+
+    private static String entry(Class<?> type, boolean allDeclaredFields, List<String> constructors) {
+        StringBuilder entry = new StringBuilder("  {\n    \"name\": \"").append(type.getName()).append('"');
+        if (allDeclaredFields) {
+            entry.append(",\n    \"allDeclaredFields\": true");
+        }
+        if (!constructors.isEmpty()) {
+            entry.append(",\n    \"methods\": [");
+            for (int i = 0; i < constructors.size(); i++) {
+                entry.append(i > 0 ? ", " : "")
+                        .append("{ \"name\": \"<init>\", \"parameterTypes\": [")
+                        .append(constructors.get(i))
+                        .append("] }");
+            }
+            entry.append(']');
+        }
+        return entry.append("\n  }").toString();
+    }
+
+    /**
+     * Writes reflection metadata for the named classes, for use from a build step:
+     * {@code java -cp <classpath> ie.briandouglas.blueprint.BlueprintRegistry <output> <class>...}
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length < 2) {
+            System.err.println("Usage: BlueprintRegistry <output-file> <class-name>...");
+            System.exit(1);
+        }
+
+        BlueprintRegistry registry = new BlueprintRegistry();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        for (int i = 1; i < args.length; i++) {
+            Class<?> type = Class.forName(args[i], false, loader);
+            if (BlueprintFactory.class.isAssignableFrom(type)) {
+                Class<?> entityType = entityType(type);
+                if (entityType == null) {
+                    throw new IllegalArgumentException("Cannot resolve the entity type of " + type.getName()
+                            + "; pass the entity class instead");
+                }
+                registry.register(entityType);
+            } else {
+                registry.register(type);
+            }
+        }
+        registry.writeReflectionConfig(Path.of(args[0]));
+    }
+
+    private void collect(Class<?> type) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (!types.add(c)) return;
+            for (Field field : c.getDeclaredFields()) {
+                collectFieldType(field.getGenericType());
+            }
+        }
+    }
+
+    private void collectFieldType(Type type) {
+        if (type instanceof Class<?> c && DeepMerger.isBean(c)) {
+            collect(c);
+        } else if (type instanceof Class<?> c && isConcreteCollection(c)) {
+            collectionTypes.add(c);
+        } else if (type instanceof ParameterizedType parameterized) {
+            collectFieldType(parameterized.getRawType());
+            for (Type argument : parameterized.getActualTypeArguments()) {
+                collectFieldType(argument);
+            }
+        }
+    }
+
+    /** Returns the factory's concrete type argument, or null if it is not a class. */
+    private static Class<?> entityType(Class<?> factoryClass) {
+        for (Class<?> c = factoryClass; c != null && c != BlueprintFactory.class; c = c.getSuperclass()) {
+            if (c.getGenericSuperclass() instanceof ParameterizedType parameterized
+                    && parameterized.getRawType() == BlueprintFactory.class
+                    && parameterized.getActualTypeArguments()[0] instanceof Class<?> entity) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isConcreteCollection(Class<?> type) {
+        return (List.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type))
+                && !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+    }
+
+    private static boolean hasConstructor(Class<?> type, Class<?>... parameterTypes) {
+        try {
+            type.getDeclaredConstructor(parameterTypes);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ie.briandouglas.blueprint;
+
+import lombok.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The entities produced by a {@link DatasetBuilder}, grouped by type in creation order.
+ */
+public final class Dataset {
+
+    private final Map<Class<?>, List<?>> entities;
+
+    Dataset(Map<Class<?>, List<?>> entities) {
+        this.entities = Collections.unmodifiableMap(entities);
+    }
+
+    /**
+     * Returns the entities of the given type. The list is unmodifiable.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(@NonNull Class<T> type) {
+        List<?> list = entities.get(type);
+        if (list == null) {
+            throw new IllegalArgumentException("Type is not part of the dataset: " + type.getName());
+        }
+        return (List<T>) list;
+    }
+
+    /** The types in the dataset, in the order they were added to the builder. */
+    public Set<Class<?>> types() {
+        return entities.keySet();
+    }
+}
@@ -0,0 +1,259 @@
+package ie.briandouglas.blueprint;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Builds a whole object graph from several factories at once.
+ * <p>
+ * Each entity type is created with its own factory, either a fixed number of times or a fixed number
+ * of times per instance of a parent type. Types are created in dependency order, a level at a time:
+ * every type in a level is created in parallel batches, and references are then wired by index,
+ * child {@code i} of {@code C} belonging to parent {@code i * P / C} of {@code P}.
+ * Factories used here are called from several threads and must be thread-safe.
+ */
+public final class DatasetBuilder {
+
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    private final Map<Class<?>, Node> nodes = new LinkedHashMap<>();
+    private final List<Link> links = new ArrayList<>();
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private record Node(Class<?> type, BlueprintFactory<?> factory, int count, Class<?> parent, int perParent) { }
+
+    private record Link(Class<?> child, Class<?> parent, BiConsumer<Object, Object> setter, boolean many) { }
+
+    /** Adds a type created {@code count} times. */
+    public <T> DatasetBuilder add(@NonNull Class<T> type, @NonNull BlueprintFactory<T> factory, int count) {
+        requireNonNegative(count, "count");
+        return addNode(new Node(type, factory, count, null, 0));
+    }
+
+    /** Adds a type created {@code perParent} times for every instance of the parent type. */
+    public <T> DatasetBuilder add(@NonNull Class<T> type, @NonNull BlueprintFactory<T> factory,
+                                  @NonNull Class<?> parentType, int perParent) {
+        requireNonNegative(perParent, "perParent");
+        return addNode(new Node(type, factory, 0, parentType, perParent));
+    }
+
+    /** Sets each child's reference to the parent it belongs to. */
+    @SuppressWarnings("unchecked")
+    public <C, P> DatasetBuilder link(@NonNull Class<C> childType, @NonNull Class<P> parentType,
+                                      @NonNull BiConsumer<C, P> setter) {
+        links.add(new Link(childType, parentType, (BiConsumer<Object, Object>) setter, false));
+        return this;
+    }
+
+    /** Sets each parent's list of the children that belong to it. The lists are unmodifiable views. */
+    @SuppressWarnings("unchecked")
+    public <P, C> DatasetBuilder linkMany(@NonNull Class<P> parentType, @NonNull Class<C> childType,
+                                          @NonNull BiConsumer<P, List<C>> setter) {
+        links.add(new Link(childType, parentType, (BiConsumer<Object, Object>) (BiConsumer<?, ?>) setter, true));
+        return this;
+    }
+
+    /** Sets the number of threads used to create and wire entities. Defaults to the number of processors. */
+    public DatasetBuilder parallelism(int parallelism) {
+        requirePositive(parallelism, "parallelism");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /** Sets how many entities a single task creates or wires. */
+    public DatasetBuilder batchSize(int batchSize) {
+        requirePositive(batchSize, "batchSize");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /** Creates and wires every entity. */
+    public Dataset build() {
+        List<List<Node>> levels = plan();
+        Map<Class<?>, Object[]> created = new HashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (List<Node> level : levels) {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (Node node : level) {
+                    int count = node.parent() == null
+                            ? node.count()
+                            : Math.multiplyExact(created.get(node.parent()).length, node.perParent());
+                    Object[] instances = new Object[count];
+                    created.put(node.type(), instances);
+                    submitBatches(executor, tasks, count, i -> instances[i] = node.factory().create());
+                }
+                await(tasks);
+
+                for (Node node : level) {
+                    for (Link link : links) {
+                        if (link.child() == node.type()) {
+                            submitLink(executor, tasks, link, created.get(link.child()), created.get(link.parent()));
+                        }
+                    }
+                }
+                await(tasks);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<Class<?>, List<?>> entities = new LinkedHashMap<>();
+        nodes.keySet().forEach(type -> entities.put(type, Collections.unmodifiableList(Arrays.asList(created.get(type)))));
+        return new Dataset(entities);
+    }
+
+    /** Groups the types into levels so every parent is in an earlier level than its children. */
+    private List<List<Node>> plan() {
+        Map<Class<?>, List<Class<?>>> children = new HashMap<>();
+        Map<Class<?>, Integer> parentCount = new LinkedHashMap<>();
+        nodes.keySet().forEach(type -> parentCount.put(type, 0));
+
+        for (Node node : nodes.values()) {
+            if (node.parent() != null) {
+                addEdge(children, parentCount, node.parent(), node.type());
+            }
+        }
+        for (Link link : links) {
+            addEdge(children, parentCount, link.parent(), link.child());
+        }
+
+        List<List<Node>> levels = new ArrayList<>();
+        List<Class<?>> ready = parentCount.entrySet().stream()
+                .filter(entry -> entry.getValue() == 0)
+                .<Class<?>>map(Map.Entry::getKey)
+                .toList();
+        int planned = 0;
+
+        while (!ready.isEmpty()) {
+            List<Node> level = new ArrayList<>();
+            List<Class<?>> next = new ArrayList<>();
+            for (Class<?> type : ready) {
+                level.add(nodes.get(type));
+                for (Class<?> child : children.getOrDefault(type, List.of())) {
+                    if (parentCount.merge(child, -1, Integer::sum) == 0) {
+                        next.add(child);
+                    }
+                }
+            }
+            planned += level.size();
+            levels.add(level);
+            ready = next;
+        }
+
+        if (planned != nodes.size()) {
+            throw new IllegalArgumentException("Dataset relations form a cycle between: " + parentCount.entrySet().stream()
+                    .filter(entry -> entry.getValue() > 0)
+                    .map(entry -> entry.getKey().getName())
+                    .toList());
+        }
+        return levels;
+    }
+
+    private void addEdge(Map<Class<?>, List<Class<?>>> children, Map<Class<?>, Integer> parentCount,
+                         Class<?> parent, Class<?> child) {
+        requireAdded(parent);
+        requireAdded(child);
+        children.computeIfAbsent(parent, type -> new ArrayList<>()).add(child);
+        parentCount.merge(child, 1, Integer::sum);
+    }
+
+    private void submitLink(ExecutorService executor, List<Future<?>> tasks, Link link, Object[] children, Object[] parents) {
+        if (parents.length == 0) {
+            if (children.length > 0 && !link.many()) {
+                throw new IllegalStateException("Cannot link " + link.child().getName() + " to "
+                        + link.parent().getName() + ": no parents were created");
+            }
+            return;
+        }
+
+        if (link.many()) {
+            List<Object> childList = Arrays.asList(children);
+            submitBatches(executor, tasks, parents.length, j -> link.setter().accept(parents[j],
+                    Collections.unmodifiableList(childList.subList(
+                            firstChild(j, children.length, parents.length),
+                            firstChild(j + 1, children.length, parents.length)))));
+        } else {
+            submitBatches(executor, tasks, children.length, i -> link.setter().accept(children[i],
+                    parents[(int) ((long) i * parents.length / children.length)]));
+        }
+    }
+
+    /** The index of the first child belonging to the given parent, i.e. ceil(parent * children / parents). */
+    private static int firstChild(int parent, int children, int parents) {
+        return (int) (((long) parent * children + parents - 1) / parents);
+    }
+
+    private void submitBatches(ExecutorService executor, List<Future<?>> tasks, int count, IntConsumer task) {
+        for (int from = 0; from < count; from += batchSize) {
+            int start = from;
+            int end = Math.min(count, from + batchSize);
+            tasks.add(executor.submit(() -> {
+                for (int i = start; i < end; i++) {
+                    task.accept(i);
+                }
+            }));
+        }
+    }
+
+    private static void await(List<Future<?>> tasks) {
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while building dataset", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Failed to build dataset", e.getCause());
+        } finally {
+            tasks.clear();
+        }
+    }
+
+    private DatasetBuilder addNode(Node node) {
+        if (nodes.putIfAbsent(node.type(), node) != null) {
+            throw new IllegalArgumentException("Type already added: " + node.type().getName());
+        }
+        return this;
+    }
+
+    private void requireAdded(Class<?> type) {
+        if (!nodes.containsKey(type)) {
+            throw new IllegalArgumentException("Type has not been added: " + type.getName());
+        }
+    }
+
+    private static void requireNonNegative(int value, String name) {
+        if (value < 0) {
+            throw new IllegalArgumentException(name + " must not be negative: " + value);
+        }
+    }
+
+    private static void requirePositive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive: " + value);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package ie.briandouglas.blueprint;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * Recursively merges non-null values from a source object graph into a target.
+ * Nested beans, lists and maps are never modified in place: when a merge changes
+ * them a shallow copy is made, and when it does not the original reference is kept,
+ * so unchanged subtrees stay shared between instances.
+ */
+final class DeepMerger {
+
+    private static final ClassValue<Optional<Constructor<?>>> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Optional<Constructor<?>> computeValue(Class<?> type) {
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return Optional.of(constructor);
+            } catch (NoSuchMethodException | InaccessibleObjectException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    /**
+     * A (target, source) bean pair met during the merge. The first pass decides which pairs change;
+     * the second pass copies only those, so unchanged beans are never instantiated.
+     */
+    private static final class Pair {
+        private final boolean root;
+        private boolean changed;
+        private Object result;
+        private final List<Pair> referencedBy = new ArrayList<>();
+
+        private Pair(boolean root) {
+            this.root = root;
+        }
+    }
+
+    /** Source bean to (target bean to pair) for every pair met so far. */
+    private final Map<Object, Map<Object, Pair>> pairs = new IdentityHashMap<>();
+
+    private DeepMerger() {
+    }
+
+    /** Merges the source's fields into the target itself; nested values are copied on write. */
+    static void merge(Object target, Object source) {
+        DeepMerger merger = new DeepMerger();
+        Pair root = new Pair(true);
+        merger.pairs(source).put(target, root);
+
+        merger.analyzeFields(target, source, root);
+        merger.propagateChanges();
+
+        for (Field field : ObjectMerger.fields(source.getClass())) {
+            Object sourceValue = read(field, source);
+            if (sourceValue == null) continue;
+
+            Object targetValue = read(field, target);
+            Object result = merger.mergeValue(targetValue, sourceValue, field.getType());
+            if (result != targetValue) {
+                write(field, target, result);
+            }
+        }
+    }
+
+    /**
+     * First pass: marks the owner changed if merging would change one of its own values, and records which
+     * pairs it references. A back-reference to a pair still being analysed counts as unchanged for now;
+     * {@link #propagateChanges()} settles it once every pair is known.
+     */
+    private void analyzeFields(Object target, Object source, Pair owner) {
+        for (Field field : ObjectMerger.fields(source.getClass())) {
+            Object sourceValue = read(field, source);
+            if (sourceValue != null) {
+                analyzeValue(read(field, target), sourceValue, owner);
+            }
+        }
+    }
+
+    private void analyzeValue(Object targetValue, Object sourceValue, Pair owner) {
+        if (targetValue == sourceValue) {
+            return;
+        }
+        if (targetValue == null) {
+            owner.changed = true;
+        } else if (targetValue instanceof List<?> targetList && sourceValue instanceof List<?> sourceList) {
+            if (targetList.size() != sourceList.size()) {
+                owner.changed = true;
+            }
+            for (int i = 0; i < sourceList.size(); i++) {
+                Object element = sourceList.get(i);
+                if (element != null) {
+                    analyzeValue(i < targetList.size() ? targetList.get(i) : null, element, owner);
+                }
+            }
+        } else if (targetValue instanceof Map<?, ?> targetMap && sourceValue instanceof Map<?, ?> sourceMap) {
+            for (Map.Entry<?, ?> entry : sourceMap.entrySet()) {
+                if (entry.getValue() == null) continue;
+                if (!targetMap.containsKey(entry.getKey())) {
+                    owner.changed = true;
+                }
+                analyzeValue(targetMap.get(entry.getKey()), entry.getValue(), owner);
+            }
+        } else if (targetValue.getClass() == sourceValue.getClass() && isBean(sourceValue.getClass())) {
+            Pair pair = pairs(sourceValue).get(targetValue);
+            if (pair == null) {
+                pair = new Pair(false);
+                pairs(sourceValue).put(targetValue, pair);
+                analyzeFields(targetValue, sourceValue, pair);
+            }
+            // The root is merged in place, so references to it never need rewriting.
+            if (!pair.root) {
+                pair.referencedBy.add(owner);
+            }
+        } else if (!targetValue.equals(sourceValue)) {
+            owner.changed = true;
+        }
+    }
+
+    /** A pair that references a changed pair must be copied too, so it can point at the copy. */
+    private void propagateChanges() {
+        Deque<Pair> pending = new ArrayDeque<>();
+        pairs.values().forEach(byTarget -> byTarget.values().forEach(pair -> {
+            if (pair.changed) pending.push(pair);
+        }));
+        while (!pending.isEmpty()) {
+            for (Pair owner : pending.pop().referencedBy) {
+                if (!owner.changed) {
+                    owner.changed = true;
+                    pending.push(owner);
+                }
+            }
+        }
+    }
+
+    /** Merges two values that will be stored somewhere declared as {@code declaredType}. */
+    private Object mergeValue(Object targetValue, Object sourceValue, Class<?> declaredType) {
+        if (targetValue == null || targetValue == sourceValue) {
+            return sourceValue;
+        }
+        if (targetValue instanceof List<?> targetList && sourceValue instanceof List<?> sourceList) {
+            return mergeList(targetList, sourceList, declaredType);
+        }
+        if (targetValue instanceof Map<?, ?> targetMap && sourceValue instanceof Map<?, ?> sourceMap) {
+            return mergeMap(targetMap, sourceMap, declaredType);
+        }
+        if (targetValue.getClass() == sourceValue.getClass() && isBean(sourceValue.getClass())) {
+            return mergeBean(targetValue, sourceValue);
+        }
+        return targetValue.equals(sourceValue) ? targetValue : sourceValue;
+    }
+
+    /** The source list decides the length; elements are merged onto the target's element at the same index. */
+    @SuppressWarnings("unchecked")
+    private Object mergeList(List<?> targetList, List<?> sourceList, Class<?> declaredType) {
+        boolean changed = targetList.size() != sourceList.size();
+        List<Object> values = new ArrayList<>(sourceList.size());
+
+        for (int i = 0; i < sourceList.size(); i++) {
+            Object targetValue = i < targetList.size() ? targetList.get(i) : null;
+            Object sourceValue = sourceList.get(i);
+            Object value = sourceValue == null ? targetValue : mergeValue(targetValue, sourceValue, Object.class);
+            changed |= value != targetValue;
+            values.add(value);
+        }
+
+        if (!changed) {
+            return targetList;
+        }
+        List<Object> copy = (List<Object>) newCollection(targetList, declaredType);
+        if (copy != null && fill(() -> copy.addAll(values))) {
+            return copy;
+        }
+        // The target's list class cannot be copied, so fall back to a plain list or, failing that, the source.
+        return declaredType.isAssignableFrom(ArrayList.class) ? values : sourceList;
+    }
+
+    /** Keeps the target's entries and merges the source's non-null entries over them. */
+    @SuppressWarnings("unchecked")
+    private Object mergeMap(Map<?, ?> targetMap, Map<?, ?> sourceMap, Class<?> declaredType) {
+        Map<Object, Object> values = null;
+
+        for (Map.Entry<?, ?> entry : sourceMap.entrySet()) {
+            if (entry.getValue() == null) continue;
+
+            Object targetValue = targetMap.get(entry.getKey());
+            Object value = mergeValue(targetValue, entry.getValue(), Object.class);
+            if (value != targetValue || !targetMap.containsKey(entry.getKey())) {
+                if (values == null) {
+                    values = new LinkedHashMap<>(targetMap);
+                }
+                values.put(entry.getKey(), value);
+            }
+        }
+
+        if (values == null) {
+            return targetMap;
+        }
+        Map<Object, Object> entries = values;
+        Map<Object, Object> copy = (Map<Object, Object>) newCollection(targetMap, declaredType);
+        if (copy != null && fill(() -> copy.putAll(entries))) {
+            return copy;
+        }
+        // The target's map class cannot be copied, so fall back to a plain map or, failing that, the source.
+        return declaredType.isAssignableFrom(LinkedHashMap.class) ? values : sourceMap;
+    }
+
+    /** Second pass: copies a changed pair once, recording the copy first so back-references resolve to it. */
+    private Object mergeBean(Object target, Object source) {
+        Pair pair = pairs(source).get(target);
+        if (pair.root || !pair.changed) {
+            return target;
+        }
+        if (pair.result != null) {
+            return pair.result;
+        }
+
+        Object copy = newInstance(target.getClass());
+        if (copy == null) {
+            // Without a no-arg constructor the bean cannot be copied, so it is replaced as in a shallow merge.
+            pair.result = source;
+            return source;
+        }
+        pair.result = copy;
+
+        for (Field field : ObjectMerger.fields(source.getClass())) {
+            Object targetValue = read(field, target);
+            Object sourceValue = read(field, source);
+            write(field, copy, sourceValue == null ? targetValue : mergeValue(targetValue, sourceValue, field.getType()));
+        }
+        return copy;
+    }
+
+    private Map<Object, Pair> pairs(Object source) {
+        return pairs.computeIfAbsent(source, key -> new IdentityHashMap<>());
+    }
+
+    /**
+     * Returns an empty collection of the same class as the original, keeping a sorted map's comparator,
+     * or null if one cannot be created or would not fit the declared type.
+     */
+    private static Object newCollection(Object original, Class<?> declaredType) {
+        if (!declaredType.isInstance(original)) {
+            return null;
+        }
+        if (original instanceof SortedMap<?, ?> sorted && sorted.comparator() != null) {
+            try {
+                Constructor<?> constructor = original.getClass().getDeclaredConstructor(Comparator.class);
+                constructor.setAccessible(true);
+                return constructor.newInstance(sorted.comparator());
+            } catch (ReflectiveOperationException | InaccessibleObjectException e) {
+                return null;
+            }
+        }
+        try {
+            return newInstance(original.getClass());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Runs the fill, reporting false if the collection refuses the values. */
+    private static boolean fill(Runnable fill) {
+        try {
+            fill.run();
+            return true;
+        } catch (UnsupportedOperationException | ClassCastException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    static boolean isBean(Class<?> type) {
+        if (type.isPrimitive() || type.isEnum() || type.isArray() || type.isRecord()) return false;
+        if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) return false;
+        String name = type.getName();
+        return !(name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk."));
+    }
+
+    private static Object newInstance(Class<?> type) {
+        Optional<Constructor<?>> constructor = CONSTRUCTORS.get(type);
+        if (constructor.isEmpty()) {
+            return null;
+        }
+        try {
+            return constructor.get().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to copy instance of " + type.getName(), e);
+        }
+    }
+
+    private static Object read(Field field, Object instance) {
+        try {
+            return field.get(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to access field: " + field.getName(), e);
+        }
+    }
+
+    private static void write(Field field, Object instance, Object value) {
+        try {
+            field.set(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to merge field: " + field.getName(), e);
+        }
+    }
+}
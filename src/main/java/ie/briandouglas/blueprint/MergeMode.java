@@ -0,0 +1,16 @@
+package ie.briandouglas.blueprint;
+
+/**
+ * Controls how an instance-based variation is merged into a created instance.
+ */
+public enum MergeMode {
+    /** Non-null fields of the variation replace the instance's fields by reference. */
+    SHALLOW,
+    /**
+     * Nested beans, lists and maps are merged recursively.
+     * Changed subtrees are copied, unchanged subtrees stay shared.
+     * Primitive fields can't be left unset, so a nested variation always overwrites them,
+     * with its default {@code 0} or {@code false} if not set; use wrapper types for sparse variations.
+     */
+    DEEP
+}
@@ -0,0 +1,109 @@
+package ie.briandouglas.blueprint;
+
+import lombok.NonNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A map-based variation resolved against a target class ahead of time.
+ * Field lookups and type checks are done once in {@link #compile}, so applying
+ * the plan to many instances only pays for the field writes.
+ */
+public final class MergePlan {
+
+    /** Declared fields per class by name, made accessible once, as {@code getDeclaredField} would find them. */
+    private static final ClassValue<Map<String, Field>> DECLARED_FIELDS = new ClassValue<>() {
+        @Override
+        protected Map<String, Field> computeValue(Class<?> type) {
+            Map<String, Field> fields = new HashMap<>();
+            for (Field field : type.getDeclaredFields()) {
+                try {
+                    field.setAccessible(true);
+                } catch (InaccessibleObjectException ignored) {
+                    // Left inaccessible; writing it fails as it would have without the cache.
+                }
+                fields.put(field.getName(), field);
+            }
+            return Map.copyOf(fields);
+        }
+    };
+
+    private final Class<?> targetClass;
+    private final Field[] fields;
+    private final Object[] values;
+
+    private MergePlan(Class<?> targetClass, Field[] fields, Object[] values) {
+        this.targetClass = targetClass;
+        this.fields = fields;
+        this.values = values;
+    }
+
+    /**
+     * Resolves each non-null entry of the map to a declared field of the target class.
+     * Entries that do not match a field are skipped, as in {@link ObjectMerger#mergeNonNullFields(Object, Map)}.
+     * Every entry is checked before the plan exists, so a mistyped entry means nothing is written.
+     */
+    public static MergePlan compile(@NonNull Class<?> targetClass, @NonNull Map<String, ?> sourceMap) {
+        Field[] fields = new Field[sourceMap.size()];
+        Object[] values = new Object[sourceMap.size()];
+        int size = 0;
+
+        for (Map.Entry<String, ?> entry : sourceMap.entrySet()) {
+            String fieldName = entry.getKey();
+            Object value = entry.getValue();
+
+            if (value == null) continue;
+
+            Field field = declaredField(targetClass, fieldName);
+            if (field == null) continue; // Field doesn't exist on target, skip it.
+
+            if (!field.getType().isAssignableFrom(value.getClass())) {
+                throw new IllegalArgumentException("Cannot assign value of type "
+                        + value.getClass().getName() + " to field " + fieldName);
+            }
+
+            fields[size] = field;
+            values[size] = value;
+            size++;
+        }
+
+        if (size < fields.length) {
+            fields = Arrays.copyOf(fields, size);
+            values = Arrays.copyOf(values, size);
+        }
+        return new MergePlan(targetClass, fields, values);
+    }
+
+    /** Returns the cached declared field of the type with the given name, or null if there is none. */
+    static Field declaredField(Class<?> type, String name) {
+        return DECLARED_FIELDS.get(type).get(name);
+    }
+
+    /** The class this plan was compiled against. */
+    public Class<?> targetClass() {
+        return targetClass;
+    }
+
+    /**
+     * Writes the planned values onto the target.
+     * The target must be exactly of the class the plan was compiled against.
+     */
+    public void apply(@NonNull Object target) {
+        if (!targetClass.equals(target.getClass())) {
+            throw new IllegalArgumentException("Merge plan compiled for " + targetClass.getName()
+                    + " cannot be applied to " + target.getClass().getName());
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            try {
+                fields[i].set(target, values[i]);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("Failed to access field: " + fields[i].getName(), e);
+            }
+        }
+    }
+}
@@ -3,13 +3,29 @@ package ie.briandouglas.blueprint;
 import lombok.NonNull;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 public class ObjectMerger {
 
+    /** Accessible instance fields per class, including inherited ones, resolved once per class. */
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) continue;
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
     public static <T> void mergeNonNullFields(@NonNull T target, @NonNull T source) {
         Class<?> targetClass = target.getClass();
         Class<?> sourceClass = source.getClass();
@@ -19,8 +35,7 @@ public class ObjectMerger {
                     targetClass.getName() + " vs " + sourceClass.getName());
         }
 
-        for (Field field : getAllFields(targetClass)) {
-            field.setAccessible(true);
+        for (Field field : fields(targetClass)) {
             try {
                 Object value = field.get(source);
                 if (value != null) {
@@ -32,39 +47,33 @@ public class ObjectMerger {
         }
     }
 
-    public static <T> void mergeNonNullFields(@NonNull T target, @NonNull Map<String, ?> sourceMap) {
+    /**
+     * Like {@link #mergeNonNullFields(Object, Object)}, but nested beans, lists and maps are merged
+     * recursively instead of replaced. Nested values are copied only when the merge changes them,
+     * so unchanged subtrees remain shared with the target's original values.
+     */
+    public static <T> void deepMergeNonNullFields(@NonNull T target, @NonNull T source) {
         Class<?> targetClass = target.getClass();
+        Class<?> sourceClass = source.getClass();
 
-        for (Map.Entry<String, ?> entry : sourceMap.entrySet()) {
-            String fieldName = entry.getKey();
-            Object value = entry.getValue();
-
-            if (value == null) continue;
+        if (!targetClass.equals(sourceClass)) {
+            throw new IllegalArgumentException("Source and target must be of the same type: " +
+                    targetClass.getName() + " vs " + sourceClass.getName());
+        }
 
-            try {
-                Field field = targetClass.getDeclaredField(fieldName);
-                field.setAccessible(true);
+        DeepMerger.merge(target, source);
+    }
 
-                if (field.getType().isAssignableFrom(value.getClass())) {
-                    field.set(target, value);
-                } else {
-                    throw new IllegalArgumentException("Cannot assign value of type "
-                            + value.getClass().getName() + " to field " + fieldName);
-                }
-            } catch (NoSuchFieldException ignored) {
-                // Field doesn't exist on target, skip it.
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException("Failed to access field: " + fieldName, e);
-            }
-        }
+    /**
+     * Sets the target's fields from the map's non-null entries. Entries are all type-checked first,
+     * so if any entry cannot be assigned an {@link IllegalArgumentException} is thrown and nothing is written.
+     */
+    public static <T> void mergeNonNullFields(@NonNull T target, @NonNull Map<String, ?> sourceMap) {
+        MergePlan.compile(target.getClass(), sourceMap).apply(target);
     }
 
-    private static List<Field> getAllFields(Class<?> targetClass) {
-        List<Field> fields = new ArrayList<>();
-        while (targetClass != null && targetClass != Object.class) {
-            fields.addAll(Arrays.asList(targetClass.getDeclaredFields()));
-            targetClass = targetClass.getSuperclass();
-        }
-        return fields;
+    /** Returns the cached instance fields of the type; the array must not be modified. */
+    static Field[] fields(Class<?> type) {
+        return FIELDS.get(type);
     }
 }
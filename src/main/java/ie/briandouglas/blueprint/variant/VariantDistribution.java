@@ -0,0 +1,101 @@
+package ie.briandouglas.blueprint.variant;
+
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * A set of map-based variations sampled by relative weight.
+ * Sampling uses an alias table built once on construction, so each draw is O(1)
+ * regardless of how many variants the distribution holds.
+ */
+public final class VariantDistribution {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final List<WeightedVariant> variants;
+    private final double[] probability;
+    private final int[] alias;
+
+    public VariantDistribution(@NonNull List<WeightedVariant> variants) {
+        if (variants.isEmpty()) {
+            throw new IllegalArgumentException("Distribution must contain at least one variant");
+        }
+        this.variants = List.copyOf(variants);
+        this.probability = new double[this.variants.size()];
+        this.alias = new int[this.variants.size()];
+        buildAliasTable();
+    }
+
+    public static VariantDistribution of(WeightedVariant... variants) {
+        return new VariantDistribution(List.of(variants));
+    }
+
+    public List<WeightedVariant> variants() {
+        return variants;
+    }
+
+    /**
+     * Returns the index of a variant drawn according to the weights.
+     */
+    public int sample(@NonNull RandomGenerator random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Returns the index of a variant drawn according to the weights, using only the seed and position.
+     * Draws for different positions are independent, so they can be taken in any order or in parallel.
+     */
+    public int sample(long seed, long position) {
+        long bits = mix64(seed + (position + 1) * GOLDEN_GAMMA);
+        int column = (int) (((bits >>> 32) * probability.length) >>> 32);
+        double coin = (bits & 0xFFFFFFFFL) * 0x1.0p-32;
+        return coin < probability[column] ? column : alias[column];
+    }
+
+    /** The MurmurHash3 finalizer variant used by {@link java.util.SplittableRandom}. */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Builds the alias table using Vose's method. */
+    private void buildAliasTable() {
+        int n = variants.size();
+        double total = variants.stream().mapToDouble(WeightedVariant::weight).sum();
+
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = variants.get(i).weight() * n / total;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            (scaled[more] < 1.0 ? small : large).push(more);
+        }
+
+        // Whatever remains is within rounding error of 1.
+        while (!large.isEmpty()) {
+            int i = large.pop();
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        while (!small.isEmpty()) {
+            int i = small.pop();
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+}
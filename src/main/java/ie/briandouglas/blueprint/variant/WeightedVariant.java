@@ -0,0 +1,15 @@
+package ie.briandouglas.blueprint.variant;
+
+import lombok.NonNull;
+
+/**
+ * Pairs a map-based variation with its relative weight in a {@link VariantDistribution}.
+ */
+public record WeightedVariant(double weight, @NonNull VariantMap variant) {
+
+    public WeightedVariant {
+        if (!(weight > 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Weight must be a positive finite number: " + weight);
+        }
+    }
+}
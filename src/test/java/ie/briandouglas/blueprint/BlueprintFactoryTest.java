@@ -1,8 +1,10 @@
 package ie.briandouglas.blueprint;
 
+import ie.briandouglas.blueprint.variant.VariantDistribution;
 import ie.briandouglas.blueprint.variant.VariantList;
 import ie.briandouglas.blueprint.variant.VariantMap;
 import ie.briandouglas.blueprint.variant.VariantMapList;
+import ie.briandouglas.blueprint.variant.WeightedVariant;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -242,4 +245,97 @@ class BlueprintFactoryTest {
 
         assertEquals(3, result.getItems().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreationFromDistributionIsDeterministicForSeed() {
+        var distribution = VariantDistribution.of(
+                new WeightedVariant(1, new VariantMap(Map.of("name", "Strawberry"))),
+                new WeightedVariant(3, new VariantMap(Map.of("name", "Apple")))
+        );
+
+        var first = itemFactory.create(distribution, 100, 42L).toList();
+        var second = itemFactory.create(distribution, 100, 42L).toList();
+
+        assertEquals(100, first.size());
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testCreationFromDistributionIsDeterministicWhenParallel() {
+        var distribution = VariantDistribution.of(
+                new WeightedVariant(1, new VariantMap(Map.of("name", "Strawberry"))),
+                new WeightedVariant(2, new VariantMap(Map.of("name", "Apple"))),
+                new WeightedVariant(3, new VariantMap(Map.of("name", "Orange")))
+        );
+
+        var sequential = itemFactory.create(distribution, 10_000, 42L).map(Item::getName).toList();
+        var parallel = itemFactory.create(distribution, 10_000, 42L).parallel().map(Item::getName).toList();
+
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void testCreationFromDistributionFollowsWeights() {
+        var distribution = VariantDistribution.of(
+                new WeightedVariant(5, new VariantMap(Map.of("name", "Admin"))),
+                new WeightedVariant(20, new VariantMap(Map.of("name", "Suspended"))),
+                new WeightedVariant(75, new VariantMap(Map.of()))
+        );
+
+        var counts = itemFactory.create(distribution, 100_000, 7L)
+                .collect(Collectors.groupingBy(Item::getName, Collectors.counting()));
+
+        assertEquals(0.05, counts.get("Admin") / 100_000.0, 0.01);
+        assertEquals(0.20, counts.get("Suspended") / 100_000.0, 0.01);
+        assertEquals(0.75, counts.get("Blueprint") / 100_000.0, 0.01);
+    }
+
+    @Test
+    void testCreationFromDistributionKeepsBlueprintFields() {
+        var distribution = VariantDistribution.of(
+                new WeightedVariant(1, new VariantMap(Map.of("name", "Admin"))),
+                new WeightedVariant(1, new VariantMap(Map.of()))
+        );
+
+        itemFactory.create(distribution, 100, 7L).forEach(item -> {
+            assertEquals(5.0f, item.getPrice());
+            assertEquals(5.0f, item.getWeight());
+        });
+    }
+
+    @Test
+    void testDistributionRejectsInvalidWeights() {
+        var variant = new VariantMap(Map.of("name", "Apple"));
+
+        assertThrows(IllegalArgumentException.class, () -> new WeightedVariant(0, variant));
+        assertThrows(IllegalArgumentException.class, () -> new WeightedVariant(Double.NaN, variant));
+        assertThrows(IllegalArgumentException.class, () -> new VariantDistribution(List.of()));
+    }
+
+    @Test
+    void testCreationWithDeepMergeModeKeepsBlueprintUnaltered() {
+        var bestSeller = new Item("Cookie", 1.99f, 1.0f);
+        storeBlueprint.setBestSeller(bestSeller);
+        var deepStoreFactory = new StoreFactory() {
+            @Override
+            protected Store blueprint() {
+                return storeBlueprint.clone();
+            }
+
+            @Override
+            protected MergeMode mergeMode() {
+                return MergeMode.DEEP;
+            }
+        };
+
+        var variation = new Store();
+        variation.setBestSeller(new Item(null, 2.5f, null));
+        var result = deepStoreFactory
+                .with(itemFactory::create, 2, Store::setItems)
+                .create(variation);
+
+        assertEquals(new Item("Cookie", 2.5f, 1.0f), result.getBestSeller());
+        assertEquals(1.99f, bestSeller.getPrice());
+        assertEquals(2, result.getItems().size());
+    }
+}
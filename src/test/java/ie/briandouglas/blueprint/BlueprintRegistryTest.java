@@ -0,0 +1,99 @@
+package ie.briandouglas.blueprint;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintRegistryTest {
+
+    static class Entity {
+        private Long id;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Account extends Entity {
+        private String name;
+        private Owner owner;
+        private List<Tag> tags;
+        private LinkedList<String> aliases;
+        private TreeMap<String, Integer> scores;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Owner {
+        private String name;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Tag {
+        private String label;
+    }
+
+    static class AccountFactory extends BlueprintFactory<Account> {
+        @Override
+        protected Account blueprint() {
+            return new Account("Blueprint", new Owner("Alice"), List.of(), null, null);
+        }
+    }
+
+    @Test
+    void testRegisterCollectsReachableBeanTypes() {
+        var registry = new BlueprintRegistry().register(Account.class);
+
+        assertEquals(Set.of(Account.class, Entity.class, Owner.class, Tag.class), registry.types());
+    }
+
+    @Test
+    void testRegisterResolvesFactoryEntityType() {
+        var factory = new AccountFactory();
+
+        assertTrue(new BlueprintRegistry().register(factory).types().contains(Account.class));
+        assertTrue(new BlueprintRegistry().register(factory.with(() -> "x", (a, s) -> a.setName(s))).types()
+                .contains(Account.class));
+    }
+
+    @Test
+    void testWriteReflectionConfig() throws IOException {
+        var writer = new StringWriter();
+        new BlueprintRegistry().register(Account.class).writeReflectionConfig(writer);
+        String json = writer.toString();
+
+        assertTrue(json.contains("\"name\": \"" + Account.class.getName() + "\""));
+        assertTrue(json.contains("\"name\": \"" + Owner.class.getName() + "\""));
+        assertTrue(json.contains("\"allDeclaredFields\": true"));
+        assertTrue(json.indexOf("<init>") > json.indexOf(Account.class.getName()));
+        assertTrue(json.trim().startsWith("[") && json.trim().endsWith("]"));
+        assertTrue(json.contains("{\n    \"name\": \"java.util.LinkedList\",\n"
+                + "    \"methods\": [{ \"name\": \"<init>\", \"parameterTypes\": [] }]\n  }"));
+        assertTrue(json.contains("{\n    \"name\": \"java.util.TreeMap\",\n"
+                + "    \"methods\": [{ \"name\": \"<init>\", \"parameterTypes\": [] }, "
+                + "{ \"name\": \"<init>\", \"parameterTypes\": [\"java.util.Comparator\"] }]\n  }"));
+        assertFalse(json.contains("\"java.util.List\""));
+    }
+
+    @Test
+    void testMainWritesReflectionConfigFile(@TempDir Path dir) throws Exception {
+        Path output = dir.resolve("META-INF/native-image/reflect-config.json");
+
+        BlueprintRegistry.main(new String[]{output.toString(), AccountFactory.class.getName()});
+
+        assertTrue(Files.readString(output).contains(Account.class.getName()));
+    }
+}
@@ -0,0 +1,185 @@
+package ie.briandouglas.blueprint;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetBuilderTest {
+    private OrgFactory orgFactory;
+    private UserFactory userFactory;
+    private RoleFactory roleFactory;
+
+    @Data
+    @NoArgsConstructor
+    static class Org {
+        private int id;
+        private List<User> users;
+    }
+
+    @Data
+    @NoArgsConstructor
+    static class User {
+        private int id;
+        private Org org;
+        private Role role;
+    }
+
+    @Data
+    @NoArgsConstructor
+    static class Role {
+        private int id;
+    }
+
+    static class OrgFactory extends BlueprintFactory<Org> {
+        private final AtomicInteger ids = new AtomicInteger();
+
+        @Override
+        protected Org blueprint() {
+            Org org = new Org();
+            org.setId(ids.incrementAndGet());
+            return org;
+        }
+    }
+
+    static class UserFactory extends BlueprintFactory<User> {
+        private final AtomicInteger ids = new AtomicInteger();
+
+        @Override
+        protected User blueprint() {
+            User user = new User();
+            user.setId(ids.incrementAndGet());
+            return user;
+        }
+    }
+
+    static class RoleFactory extends BlueprintFactory<Role> {
+        private final AtomicInteger ids = new AtomicInteger();
+
+        @Override
+        protected Role blueprint() {
+            Role role = new Role();
+            role.setId(ids.incrementAndGet());
+            return role;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        orgFactory = new OrgFactory();
+        userFactory = new UserFactory();
+        roleFactory = new RoleFactory();
+    }
+
+    @Test
+    void testBuildCreatesCountsPerParent() {
+        var dataset = new DatasetBuilder()
+                .add(User.class, userFactory, Org.class, 25)
+                .add(Org.class, orgFactory, 4)
+                .batchSize(7)
+                .build();
+
+        assertEquals(4, dataset.get(Org.class).size());
+        assertEquals(100, dataset.get(User.class).size());
+        assertEquals(100, userFactory.ids.get());
+    }
+
+    @Test
+    void testBuildWiresReferencesByIndex() {
+        var dataset = new DatasetBuilder()
+                .add(Org.class, orgFactory, 3)
+                .add(User.class, userFactory, Org.class, 10)
+                .add(Role.class, roleFactory, 4)
+                .link(User.class, Org.class, User::setOrg)
+                .linkMany(Org.class, User.class, Org::setUsers)
+                .link(User.class, Role.class, User::setRole)
+                .parallelism(4)
+                .batchSize(3)
+                .build();
+
+        List<Org> orgs = dataset.get(Org.class);
+        List<User> users = dataset.get(User.class);
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            assertSame(orgs.get(i / 10), user.getOrg());
+            assertTrue(user.getOrg().getUsers().stream().anyMatch(u -> u == user));
+            assertSame(dataset.get(Role.class).get(i * 4 / 30), user.getRole());
+        }
+        for (Org org : orgs) {
+            assertEquals(10, org.getUsers().size());
+        }
+    }
+
+    @Test
+    void testBuildSpreadsUnevenChildrenOverParents() {
+        var dataset = new DatasetBuilder()
+                .add(Org.class, orgFactory, 3)
+                .add(User.class, userFactory, 7)
+                .link(User.class, Org.class, User::setOrg)
+                .linkMany(Org.class, User.class, Org::setUsers)
+                .build();
+
+        int total = 0;
+        for (Org org : dataset.get(Org.class)) {
+            for (User user : org.getUsers()) {
+                assertSame(org, user.getOrg());
+            }
+            total += org.getUsers().size();
+        }
+        assertEquals(7, total);
+    }
+
+    @Test
+    void testBuildRejectsCycles() {
+        var builder = new DatasetBuilder()
+                .add(Org.class, orgFactory, User.class, 1)
+                .add(User.class, userFactory, Org.class, 1);
+
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    void testBuildRejectsUnknownTypes() {
+        var builder = new DatasetBuilder()
+                .add(User.class, userFactory, 1)
+                .link(User.class, Org.class, User::setOrg);
+
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    void testGetRejectsTypesNotInDataset() {
+        var dataset = new DatasetBuilder()
+                .add(User.class, userFactory, 1)
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> dataset.get(Role.class));
+    }
+
+    @Test
+    void testAddRejectsDuplicateTypes() {
+        var builder = new DatasetBuilder().add(User.class, userFactory, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(User.class, userFactory, 2));
+    }
+
+    @Test
+    void testBuildPropagatesFactoryFailures() {
+        var failing = new BlueprintFactory<Role>() {
+            @Override
+            protected Role blueprint() {
+                throw new IllegalStateException("boom");
+            }
+        };
+
+        var builder = new DatasetBuilder().add(Role.class, failing, 5);
+
+        assertEquals("boom", assertThrows(IllegalStateException.class, builder::build).getMessage());
+    }
+}
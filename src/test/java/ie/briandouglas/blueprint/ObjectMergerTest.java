@@ -3,9 +3,17 @@ package ie.briandouglas.blueprint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,6 +27,48 @@ class ObjectMergerTest {
         private String email;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Address {
+        private String street;
+        private String city;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Customer {
+        private String name;
+        private Address address;
+        private Address billing;
+        private List<Address> previous;
+        private Customer referrer;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Tagged {
+        private LinkedList<String> tags;
+        private TreeMap<String, Integer> scores;
+        private Map<String, Integer> counts;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Node {
+        static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+
+        private String name;
+        private int size;
+        private Node parent;
+
+        Node() {
+            CONSTRUCTED.incrementAndGet();
+        }
+    }
+
     @Test
     void testMergeNonNullFields_basicMerge() {
         Person target = new Person("Alice", 25, null);
@@ -119,4 +169,227 @@ class ObjectMergerTest {
 
         assertEquals("top-secret", target.getSecret());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMergeNonNullFields_mapWithMistypedEntryWritesNothing() {
+        Person target = new Person("Frank", 45, "frank@example.com");
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("name", "John");
+        source.put("email", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> ObjectMerger.mergeNonNullFields(target, source));
+        assertEquals("Frank", target.getName());
+        assertEquals("frank@example.com", target.getEmail());
+    }
+
+    @Test
+    void testMergePlan_appliesToManyTargets() {
+        var plan = MergePlan.compile(Person.class, Map.of("name", "John", "unknown", 1));
+
+        Person first = new Person("Frank", 45, "frank@example.com");
+        Person second = new Person("Grace", 30, null);
+        plan.apply(first);
+        plan.apply(second);
+
+        assertEquals("John", first.getName());
+        assertEquals("John", second.getName());
+        assertEquals(30, second.getAge());
+    }
+
+    @Test
+    void testMergePlan_cachesDeclaredFields() {
+        var field = MergePlan.declaredField(Person.class, "name");
+
+        assertNotNull(field);
+        assertTrue(field.canAccess(new Person(null, null, null)));
+        assertSame(field, MergePlan.declaredField(Person.class, "name"));
+        assertNull(MergePlan.declaredField(Person.class, "missing"));
+    }
+
+    @Test
+    void testMergePlan_rejectsDifferentTargetType() {
+        var plan = MergePlan.compile(Person.class, Map.of("name", "John"));
+
+        assertThrows(IllegalArgumentException.class, () -> plan.apply(new Object()));
+    }
+
+    @Test
+    void testMergePlan_rejectsIncompatibleValue() {
+        assertThrows(IllegalArgumentException.class, () -> MergePlan.compile(Person.class, Map.of("name", 1)));
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_mergesNestedBeanWithoutMutatingIt() {
+        Address address = new Address("Main St", "Dublin");
+        Address billing = new Address("Side St", "Cork");
+        Customer target = new Customer("Alice", address, billing, null, null);
+        Customer source = new Customer(null, new Address(null, "Galway"), null, null, null);
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+
+        assertEquals(new Address("Main St", "Galway"), target.getAddress());
+        assertEquals(new Address("Main St", "Dublin"), address);
+        assertSame(billing, target.getBilling());
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_sharesUnchangedSubtrees() {
+        Address address = new Address("Main St", "Dublin");
+        List<Address> previous = List.of(new Address("Old St", "Cork"));
+        Customer target = new Customer("Alice", address, null, previous, null);
+        Customer source = new Customer("Bob", new Address("Main St", "Dublin"), null,
+                List.of(new Address(null, "Cork")), null);
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+
+        assertEquals("Bob", target.getName());
+        assertSame(address, target.getAddress());
+        assertSame(previous, target.getPrevious());
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_mergesListsByIndex() {
+        List<Address> previous = new ArrayList<>(List.of(new Address("Old St", "Cork"), new Address("New St", "Cork")));
+        Customer target = new Customer("Alice", null, null, previous, null);
+        Customer source = new Customer(null, null, null, List.of(new Address(null, "Galway")), null);
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+
+        assertEquals(List.of(new Address("Old St", "Galway")), target.getPrevious());
+        assertEquals(2, previous.size());
+        assertEquals("Cork", previous.get(0).getCity());
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_keepsCyclesIntact() {
+        Customer old = new Customer("t2-old", null, null, null, null);
+        old.setReferrer(old);
+        Customer target = new Customer("Alice", null, null, null, old);
+
+        Customer updated = new Customer("t2-new", null, null, null, null);
+        updated.setReferrer(updated);
+        Customer source = new Customer(null, null, null, null, updated);
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+
+        Customer referrer = target.getReferrer();
+        assertNotSame(old, referrer);
+        assertNotSame(updated, referrer);
+        assertEquals("t2-new", referrer.getName());
+        assertSame(referrer, referrer.getReferrer());
+        assertSame(old, old.getReferrer());
+        assertEquals("t2-old", old.getName());
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_backReferenceToRootResolvesToTarget() {
+        Customer target = new Customer("Alice", null, null, null, null);
+        target.setReferrer(new Customer("Ref", null, null, null, target));
+        Customer source = new Customer(null, null, null, null, null);
+        source.setReferrer(new Customer("Bob", null, null, null, source));
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+
+        assertEquals("Bob", target.getReferrer().getName());
+        assertTrue(target == target.getReferrer().getReferrer());
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_copiesConcreteCollectionTypes() {
+        LinkedList<String> tags = new LinkedList<>(List.of("a", "b"));
+        TreeMap<String, Integer> scores = new TreeMap<>(Comparator.reverseOrder());
+        scores.put("a", 1);
+        Tagged target = new Tagged(tags, scores, null);
+        Tagged source = new Tagged(new LinkedList<>(List.of("c")), new TreeMap<>(Map.of("b", 2)), null);
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+
+        assertEquals(LinkedList.class, target.getTags().getClass());
+        assertEquals(List.of("c"), target.getTags());
+        assertEquals(List.of("a", "b"), tags);
+        assertEquals(List.of("b", "a"), new ArrayList<>(target.getScores().keySet()));
+        assertEquals(1, scores.size());
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_keepsMapClassWhenDeclaredAsMap() {
+        Map<String, Integer> counts = new TreeMap<>(Map.of("b", 2));
+        Tagged target = new Tagged(null, null, counts);
+        Tagged source = new Tagged(null, null, Map.of("a", 1));
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+
+        assertEquals(TreeMap.class, target.getCounts().getClass());
+        assertEquals(List.of("a", "b"), new ArrayList<>(target.getCounts().keySet()));
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_fallsBackForUncopyableCollections() {
+        Tagged target = new Tagged(null, null, Map.of("b", 2));
+        Tagged source = new Tagged(null, null, Map.of("a", 1));
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+
+        assertEquals(Map.of("a", 1, "b", 2), target.getCounts());
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_sharesUnchangedCycles() {
+        Customer target = new Customer("Alice", null, null, null, null);
+        Customer referrer = new Customer("Ref", null, null, null, target);
+        target.setReferrer(referrer);
+        Customer self = new Customer("Self", null, null, null, null);
+        self.setReferrer(self);
+        Customer other = new Customer("Other", null, null, null, self);
+
+        Customer source = new Customer(null, null, null, null, null);
+        source.setReferrer(new Customer("Ref", null, null, null, source));
+        Customer sameSelf = new Customer("Self", null, null, null, null);
+        sameSelf.setReferrer(sameSelf);
+        Customer otherSource = new Customer(null, null, null, null, sameSelf);
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+        ObjectMerger.deepMergeNonNullFields(other, otherSource);
+
+        assertTrue(referrer == target.getReferrer());
+        assertTrue(target == referrer.getReferrer());
+        assertTrue(self == other.getReferrer());
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_onlyConstructsChangedBeans() {
+        Node unchanged = new Node("same", 1, null);
+        Node target = new Node("child", 1, unchanged);
+        Node source = new Node(null, 1, new Node("same", 1, null));
+        int constructed = Node.CONSTRUCTED.get();
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+
+        assertEquals(constructed, Node.CONSTRUCTED.get());
+        assertSame(unchanged, target.getParent());
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_primitiveFieldsAlwaysOverwrite() {
+        Node parent = new Node("parent", 7, null);
+        Node target = new Node("child", 3, parent);
+        Node variation = new Node();
+        variation.setName("renamed");
+        Node source = new Node(null, 3, variation);
+
+        ObjectMerger.deepMergeNonNullFields(target, source);
+
+        // A primitive can't be left unset, so the variation's default 0 replaces the blueprint's 7.
+        assertEquals("renamed", target.getParent().getName());
+        assertEquals(0, target.getParent().getSize());
+        assertEquals(7, parent.getSize());
+    }
+
+    @Test
+    void testDeepMergeNonNullFields_differentTypes() {
+        Person target = new Person("Frank", 45, "frank@example.com");
+        Object otherType = new Object();
+
+        assertThrows(IllegalArgumentException.class, () -> ObjectMerger.deepMergeNonNullFields(target, otherType));
+    }
+}
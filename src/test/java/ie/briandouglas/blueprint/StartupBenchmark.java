@@ -0,0 +1,130 @@
+package ie.briandouglas.blueprint;
+
+import ie.briandouglas.blueprint.variant.VariantDistribution;
+import ie.briandouglas.blueprint.variant.VariantMap;
+import ie.briandouglas.blueprint.variant.WeightedVariant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.spi.ToolProvider;
+
+/**
+ * Measures the wall-clock time of short-lived JVMs that create a handful of instances, the way a
+ * seeding CLI would, with and without the AppCDS archive setup described in the README.
+ * The gain comes from the JVM's class data sharing, not from anything in this library.
+ * AppCDS only archives classes loaded from jars, so class directories on the classpath are jarred first.
+ * Not run by the test suite; run it from the test classpath:
+ * {@code java -cp target/classes:target/test-classes ie.briandouglas.blueprint.StartupBenchmark [runs]}
+ */
+public class StartupBenchmark {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Address {
+        private String street;
+        private String city;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class User {
+        private String name;
+        private String role;
+        private Address address;
+        private List<Address> previous;
+    }
+
+    static class UserFactory extends BlueprintFactory<User> {
+        @Override
+        protected User blueprint() {
+            return new User("Blueprint", "user", new Address("Main St", "Dublin"), List.of());
+        }
+
+        @Override
+        protected MergeMode mergeMode() {
+            return MergeMode.DEEP;
+        }
+    }
+
+    /** The workload each child JVM runs, and the training run for the archive. */
+    static class Seeder {
+        public static void main(String[] args) {
+            UserFactory factory = new UserFactory();
+            factory.with(() -> "admin", User::setRole).create(Map.of("name", "Alice"));
+            factory.create(new User(null, null, new Address(null, "Cork"), null));
+            factory.create(VariantDistribution.of(
+                    new WeightedVariant(5, new VariantMap(Map.of("role", "admin"))),
+                    new WeightedVariant(95, new VariantMap(Map.of()))
+            ), 1_000, 1L).count();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path workDir = Files.createTempDirectory("blueprint-startup");
+        String classPath = jarClassPath(workDir);
+
+        Path archive = workDir.resolve("seeder.jsa");
+        run(classPath, List.of("-XX:ArchiveClassesAtExit=" + archive));
+
+        System.out.printf("no CDS:                         %d ms%n",
+                median(runs, classPath, List.of()));
+        System.out.printf("CDS trained on the workload:    %d ms%n",
+                median(runs, classPath, List.of("-XX:SharedArchiveFile=" + archive)));
+    }
+
+    /** Replaces each class directory on the current classpath with a jar of its contents. */
+    private static String jarClassPath(Path workDir) {
+        ToolProvider jar = ToolProvider.findFirst("jar").orElseThrow();
+        List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (Files.isDirectory(Path.of(entry))) {
+                Path target = workDir.resolve("classes" + entries.size() + ".jar");
+                if (jar.run(System.out, System.err, "--create", "--file", target.toString(), "-C", entry, ".") != 0) {
+                    throw new IllegalStateException("Failed to jar " + entry);
+                }
+                entries.add(target.toString());
+            } else {
+                entries.add(entry);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static long median(int runs, String classPath, List<String> jvmArgs)
+            throws IOException, InterruptedException {
+        run(classPath, jvmArgs);
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            times[i] = run(classPath, jvmArgs);
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+
+    private static long run(String classPath, List<String> jvmArgs)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-cp", classPath, Seeder.class.getName()));
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Benchmark run failed: " + command);
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}